@@ -0,0 +1,95 @@
+package com.example;
+
+/**
+ * AIMD concurrency limiter for a single Sentry destination.
+ * The in-flight limit grows by about one per round trip while the endpoint
+ * answers quickly and is cut multiplicatively when a request fails or latency
+ * climbs well above the long-term baseline, so healthy projects get more
+ * throughput and degraded ones are backed off automatically.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double RTT_TOLERANCE = 2.0;
+    private static final double SHORT_RTT_ALPHA = 0.2;
+    private static final double BASELINE_RTT_ALPHA = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private int inFlight;
+    private double smoothedRttNanos;
+    private double baselineRttNanos;
+    private long rejectedCount;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes an in-flight slot if one is free.
+     * Returns false without waiting when the destination is at its limit.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejectedCount++;
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    // Returns a slot that was acquired but never used, without recording a sample
+    public synchronized void release() {
+        inFlight--;
+    }
+
+    public synchronized void onSuccess(long rttNanos) {
+        int inFlightAtCompletion = inFlight;
+        inFlight--;
+
+        if (smoothedRttNanos == 0) {
+            smoothedRttNanos = rttNanos;
+            baselineRttNanos = rttNanos;
+        } else {
+            smoothedRttNanos += SHORT_RTT_ALPHA * (rttNanos - smoothedRttNanos);
+            baselineRttNanos += BASELINE_RTT_ALPHA * (rttNanos - baselineRttNanos);
+        }
+
+        if (smoothedRttNanos > baselineRttNanos * RTT_TOLERANCE) {
+            decrease();
+        } else if (inFlightAtCompletion * 2 >= limit) {
+            // Additive increase of one slot per full window of successes,
+            // and only while the current limit is actually being used
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized void onFailure() {
+        inFlight--;
+        decrease();
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized double getSmoothedRttMillis() {
+        return smoothedRttNanos / 1_000_000.0;
+    }
+
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example;
+
+/**
+ * Resolves the destination DSN for a tenant.
+ * Called on every event carrying the tenant tag, so implementations must be
+ * thread-safe and should answer from memory.
+ */
+public interface DsnResolver {
+
+    /**
+     * Returns the DSN for {@code tenant}, or null to fall back to the static routes.
+     */
+    String resolve(String tenant);
+}
@@ -0,0 +1,168 @@
+package com.example;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Slab allocator of off-heap buffers for serialized envelopes.
+ * Each size class owns one direct slab cut into equal buffers, allocated the
+ * first time that class is used, so an envelope is copied off the heap once
+ * and held there until its send finishes. Envelopes larger than the biggest
+ * class, or arriving when every fitting buffer is taken, fall back to the heap
+ * and are counted as oversize and exhaustion respectively.
+ * The pool belongs to the transport it is given to, which closes it.
+ */
+public class EnvelopeBufferPool {
+
+    private static final int[] DEFAULT_SIZE_CLASSES = {4 * 1024, 16 * 1024, 64 * 1024, 256 * 1024, 1024 * 1024};
+    private static final int[] DEFAULT_BUFFERS_PER_CLASS = {256, 128, 64, 16, 4};
+
+    private final int[] sizeClasses;
+    private final int[] capacities;
+    private final List<Queue<ByteBuffer>> freeLists;
+    private final AtomicReferenceArray<ByteBuffer> slabs;
+    private final AtomicIntegerArray inUse;
+    private final AtomicLong exhaustedCount = new AtomicLong();
+    private final AtomicLong oversizeCount = new AtomicLong();
+    private final Map<String, Supplier<Number>> gauges = new LinkedHashMap<>();
+
+    public EnvelopeBufferPool(int[] sizeClasses, int[] buffersPerClass) {
+        if (sizeClasses.length != buffersPerClass.length) {
+            throw new IllegalArgumentException("Expected one buffer count per size class, got "
+                + buffersPerClass.length + " counts for " + sizeClasses.length + " classes");
+        }
+        for (int i = 0; i < sizeClasses.length; i++) {
+            if (sizeClasses[i] <= 0 || (i > 0 && sizeClasses[i] <= sizeClasses[i - 1])) {
+                throw new IllegalArgumentException("Size classes must be positive and strictly ascending");
+            }
+            if (buffersPerClass[i] < 0) {
+                throw new IllegalArgumentException("Buffer counts must not be negative");
+            }
+        }
+        this.sizeClasses = sizeClasses.clone();
+        this.capacities = buffersPerClass.clone();
+        this.freeLists = new ArrayList<>(sizeClasses.length);
+        this.slabs = new AtomicReferenceArray<>(sizeClasses.length);
+        this.inUse = new AtomicIntegerArray(sizeClasses.length);
+
+        for (int i = 0; i < sizeClasses.length; i++) {
+            freeLists.add(new ConcurrentLinkedQueue<>());
+
+            int sizeClass = i;
+            gauges.put("buffer_pool.in_use{size=" + sizeClasses[i] + "}", () -> inUse.get(sizeClass));
+            gauges.put("buffer_pool.capacity{size=" + sizeClasses[i] + "}", () -> capacities[sizeClass]);
+        }
+        gauges.put("buffer_pool.exhausted", exhaustedCount::get);
+        gauges.put("buffer_pool.oversize", oversizeCount::get);
+        gauges.forEach(TransportMetrics::register);
+    }
+
+    public static EnvelopeBufferPool withDefaults() {
+        return new EnvelopeBufferPool(DEFAULT_SIZE_CLASSES, DEFAULT_BUFFERS_PER_CLASS);
+    }
+
+    /**
+     * Returns a buffer limited to {@code size} bytes, taken from the smallest
+     * fitting size class that has one free, or from the heap if none do.
+     */
+    public Buffer acquire(int size) {
+        if (sizeClasses.length == 0 || size > sizeClasses[sizeClasses.length - 1]) {
+            oversizeCount.incrementAndGet();
+            return heapBuffer(size);
+        }
+
+        for (int i = 0; i < sizeClasses.length; i++) {
+            if (sizeClasses[i] >= size) {
+                ByteBuffer buffer = freeList(i).poll();
+                if (buffer == null) continue;
+                inUse.incrementAndGet(i);
+                buffer.clear().limit(size);
+                return new Buffer(buffer, this, i);
+            }
+        }
+        exhaustedCount.incrementAndGet();
+        return heapBuffer(size);
+    }
+
+    // Unpooled buffer for callers running without a pool
+    public static Buffer heapBuffer(int size) {
+        return new Buffer(ByteBuffer.allocate(size), null, -1);
+    }
+
+    private Queue<ByteBuffer> freeList(int sizeClass) {
+        Queue<ByteBuffer> freeList = freeLists.get(sizeClass);
+        if (slabs.get(sizeClass) == null) {
+            synchronized (freeList) {
+                if (slabs.get(sizeClass) == null) {
+                    int size = sizeClasses[sizeClass];
+                    ByteBuffer slab = ByteBuffer.allocateDirect(size * capacities[sizeClass]);
+                    for (int j = 0; j < capacities[sizeClass]; j++) {
+                        freeList.add(slab.slice(j * size, size));
+                    }
+                    slabs.set(sizeClass, slab);
+                }
+            }
+        }
+        return freeList;
+    }
+
+    private void release(ByteBuffer buffer, int sizeClass) {
+        buffer.clear();
+        inUse.decrementAndGet(sizeClass);
+        freeLists.get(sizeClass).offer(buffer);
+    }
+
+    public long getExhaustedCount() {
+        return exhaustedCount.get();
+    }
+
+    public long getOversizeCount() {
+        return oversizeCount.get();
+    }
+
+    /**
+     * Unregisters this pool's gauges, leaving any a newer pool registered under
+     * the same names. Buffers still held may be released afterwards; the slabs
+     * are freed once the pool is no longer referenced.
+     */
+    public void close() {
+        gauges.forEach(TransportMetrics::unregister);
+    }
+
+    /**
+     * Handle to a serialized envelope. Must be released exactly once when the
+     * send finishes; further releases are ignored.
+     */
+    public static final class Buffer {
+        private final ByteBuffer buffer;
+        private final EnvelopeBufferPool pool;
+        private final int sizeClass;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Buffer(ByteBuffer buffer, EnvelopeBufferPool pool, int sizeClass) {
+            this.buffer = buffer;
+            this.pool = pool;
+            this.sizeClass = sizeClass;
+        }
+
+        public ByteBuffer buffer() {
+            return buffer;
+        }
+
+        public void release() {
+            if (pool != null && released.compareAndSet(false, true)) {
+                pool.release(buffer, sizeClass);
+            }
+        }
+    }
+}
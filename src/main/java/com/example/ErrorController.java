@@ -142,12 +142,17 @@ public class ErrorController {
         }
     }
 
+    @GetMapping("/transport-metrics")
+    public ResponseEntity<Map<String, Number>> transportMetrics() {
+        return ResponseEntity.ok(TransportMetrics.snapshot());
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         Map<String, String> response = new HashMap<>();
         response.put("status", "healthy");
         response.put("message", "Sentry Transport Demo is running");
-        response.put("endpoints", "/gateway-error, /internal-error, /generic-error, /custom-error, /transaction-test");
+        response.put("endpoints", "/gateway-error, /internal-error, /generic-error, /custom-error, /transaction-test, /transport-metrics");
         
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,68 @@
+package com.example;
+
+import io.sentry.ILogger;
+import io.sentry.SentryLevel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Tenant to DSN lookup backed by an in-memory map.
+ * Can be built from an embedded map or loaded from a {@code tenant=dsn}
+ * properties file on disk or on the classpath. Every DSN is validated and
+ * interned through {@link ParsedDsn} on load.
+ */
+public class MapDsnResolver implements DsnResolver {
+
+    private final Map<String, String> tenantDsns;
+
+    public MapDsnResolver(Map<String, String> tenantDsns, ILogger logger) {
+        Map<String, String> resolved = new HashMap<>(tenantDsns.size() * 2);
+        tenantDsns.forEach((tenant, dsn) -> {
+            try {
+                resolved.put(tenant, ParsedDsn.of(dsn.trim()).dsn);
+            } catch (IllegalArgumentException e) {
+                logger.log(SentryLevel.WARNING, "Skipping tenant " + tenant + ": " + e.getMessage());
+            }
+        });
+        this.tenantDsns = resolved;
+        logger.log(SentryLevel.DEBUG, "Loaded DSNs for " + resolved.size() + " tenants");
+    }
+
+    @Override
+    public String resolve(String tenant) {
+        return tenantDsns.get(tenant);
+    }
+
+    public static MapDsnResolver fromFile(Path path, ILogger logger) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return fromProperties(reader, logger);
+        }
+    }
+
+    public static MapDsnResolver fromClasspath(String resource, ILogger logger) throws IOException {
+        InputStream is = MapDsnResolver.class.getClassLoader().getResourceAsStream(resource);
+        if (is == null) {
+            logger.log(SentryLevel.DEBUG, "Tenant DSN file not found in classpath: " + resource);
+            return new MapDsnResolver(Collections.emptyMap(), logger);
+        }
+        try (Reader reader = new java.io.InputStreamReader(is, StandardCharsets.UTF_8)) {
+            return fromProperties(reader, logger);
+        }
+    }
+
+    private static MapDsnResolver fromProperties(Reader reader, ILogger logger) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        Map<String, String> tenantDsns = new HashMap<>();
+        for (String tenant : properties.stringPropertyNames()) {
+            tenantDsns.put(tenant, properties.getProperty(tenant));
+        }
+        return new MapDsnResolver(tenantDsns, logger);
+    }
+}
@@ -1,48 +1,78 @@
 package com.example;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.File;
+import io.sentry.ILogger;
+import io.sentry.SentryLevel;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 
 /**
  * Production-ready routing configuration with JSON support and hardcoded fallback.
+ * Routes are read from the binary snapshot generated at build time when present,
+ * falling back to parsing the JSON config and then to the hardcoded defaults.
  */
 public class RoutingConfiguration {
     
     private static final String CONFIG_FILE = "sentry-routing-config.json";
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String SNAPSHOT_FILE = "sentry-routing-config.bin";
+    // Set to false to skip the snapshot, e.g. to compare startup time against JSON parsing
+    private static final String SNAPSHOT_PROPERTY = "sentry.routing.snapshot";
     
-    public static ProjectRoute[] loadRoutes() {
-        try {
-            // Load from classpath (works in both dev and production)
-            java.io.InputStream is = RoutingConfiguration.class.getClassLoader()
-                .getResourceAsStream(CONFIG_FILE);
-            
-            if (is != null) {
-                System.out.println("========================================");
-                System.out.println("Loading routing configuration from classpath: " + CONFIG_FILE);
-                RoutingConfigJson config = mapper.readValue(is, RoutingConfigJson.class);
-                ProjectRoute[] routes = config.toProjectRoutes();
-                System.out.println("Loaded " + routes.length + " routes from JSON:");
-                for (ProjectRoute route : routes) {
-                    System.out.println("  - " + route.name + " -> " + route.dsn.substring(0, 50) + "...");
-                }
-                System.out.println("========================================");
-                return routes;
-            } else {
-                System.out.println("Config file not found in classpath, using defaults");
+    public static ProjectRoute[] loadRoutes(ILogger logger) {
+        long startNanos = System.nanoTime();
+        
+        byte[] json = readConfig(logger);
+        String source = SNAPSHOT_FILE;
+        ProjectRoute[] routes = json != null && Boolean.parseBoolean(System.getProperty(SNAPSHOT_PROPERTY, "true")) 
+            ? loadSnapshot(json, logger) : null;
+        if (routes == null && json != null) {
+            source = CONFIG_FILE;
+            routes = parseJson(json, logger);
+        }
+        if (routes == null) {
+            source = "fallback defaults";
+            routes = getDefaultRoutes();
+        }
+        
+        logger.log(SentryLevel.DEBUG, "Loaded " + routes.length + " routes from " + source 
+            + " in " + (System.nanoTime() - startNanos) / 1000 + " us");
+        return routes;
+    }
+    
+    private static byte[] readConfig(ILogger logger) {
+        try (InputStream is = RoutingConfiguration.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (is == null) {
+                logger.log(SentryLevel.WARNING, "Config file not found in classpath, using defaults");
+                return null;
             }
+            return is.readAllBytes();
         } catch (IOException e) {
-            System.err.println("========================================");
-            System.err.println("ERROR: Failed to load routing config from JSON!");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
-            System.err.println("Using fallback defaults with placeholder DSNs");
-            System.err.println("========================================");
+            logger.log(SentryLevel.ERROR, "Failed to read routing config, using fallback defaults with placeholder DSNs", e);
+            return null;
+        }
+    }
+    
+    // The snapshot is only trusted when it was compiled from the JSON currently on the classpath
+    private static ProjectRoute[] loadSnapshot(byte[] json, ILogger logger) {
+        try (InputStream is = RoutingConfiguration.class.getClassLoader().getResourceAsStream(SNAPSHOT_FILE)) {
+            if (is == null) {
+                logger.log(SentryLevel.DEBUG, "Routing snapshot not found in classpath: " + SNAPSHOT_FILE);
+                return null;
+            }
+            return RoutingSnapshot.read(is, RoutingSnapshot.checksum(json));
+        } catch (IOException | IllegalArgumentException e) {
+            logger.log(SentryLevel.WARNING, "Ignoring routing snapshot, parsing JSON config instead: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private static ProjectRoute[] parseJson(byte[] json, ILogger logger) {
+        try {
+            return SharedObjectMapper.get().readValue(json, RoutingConfigJson.class).toProjectRoutes();
+        } catch (IOException | IllegalArgumentException e) {
+            logger.log(SentryLevel.ERROR, "Failed to load routing config from JSON, using fallback defaults with placeholder DSNs", e);
+            return null;
         }
-        
-        return getDefaultRoutes();
     }
     
     private static ProjectRoute[] getDefaultRoutes() {
@@ -79,17 +109,35 @@ public class RoutingConfiguration {
     public static class RoutingConfigJson {
         public List<ProjectRouteJson> projects;
         
+        // Missing lists and rules are read as empty; a route without a name or DSN is rejected
         public ProjectRoute[] toProjectRoutes() {
-            return projects.stream()
-                .map(p -> new ProjectRoute(
+            List<ProjectRouteJson> routes = projects != null ? projects : Collections.emptyList();
+            ProjectRoute[] result = new ProjectRoute[routes.size()];
+            for (int i = 0; i < result.length; i++) {
+                ProjectRouteJson p = routes.get(i);
+                checkRoute(p, i);
+                RulesJson rules = p.rules != null ? p.rules : new RulesJson();
+                result[i] = new ProjectRoute(
                     p.name,
                     p.dsn,
-                    p.rules.tags.toArray(new String[0]),
-                    p.rules.statusCodes.toArray(new String[0]),
-                    p.rules.exceptionTypes.toArray(new String[0]),
-                    p.rules.messageKeywords.toArray(new String[0])
-                ))
-                .toArray(ProjectRoute[]::new);
+                    toArray(rules.tags),
+                    toArray(rules.statusCodes),
+                    toArray(rules.exceptionTypes),
+                    toArray(rules.messageKeywords)
+                );
+            }
+            return result;
+        }
+        
+        private static String[] toArray(List<String> values) {
+            return values != null ? values.toArray(new String[0]) : new String[0];
+        }
+    }
+    
+    static void checkRoute(ProjectRouteJson route, int index) {
+        if (route == null || route.name == null || route.dsn == null) {
+            String name = route != null && route.name != null ? " (" + route.name + ")" : "";
+            throw new IllegalArgumentException("Routing config project " + index + name + " needs a name and a dsn");
         }
     }
     
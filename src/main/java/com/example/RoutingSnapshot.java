@@ -0,0 +1,143 @@
+package com.example;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary form of the routing configuration.
+ * Generated from the JSON config at build time by {@link #main}, so startup
+ * can read routes with plain DataInputStream calls instead of Jackson.
+ * The header carries a checksum of the source JSON, so a snapshot left over
+ * from an earlier build is rejected once the JSON changes.
+ */
+public final class RoutingSnapshot {
+
+    private static final int MAGIC = 0x53525453;
+    private static final int VERSION = 2;
+    // magic, version, source checksum and route count
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    // Smallest possible encodings, used to bound counts read from the file
+    private static final int MIN_STRING_BYTES = 2;
+    private static final int MIN_ROUTE_BYTES = 2 * MIN_STRING_BYTES + 4 * 4;
+
+    private RoutingSnapshot() { }
+
+    // Usage: RoutingSnapshot <routing config json> <snapshot output>
+    public static void main(String[] args) throws IOException {
+        byte[] json = Files.readAllBytes(Path.of(args[0]));
+        RoutingConfiguration.RoutingConfigJson config = SharedObjectMapper.get()
+            .readValue(json, RoutingConfiguration.RoutingConfigJson.class);
+        Path output = Path.of(args[1]);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        int routeCount;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            routeCount = write(config, checksum(json), out);
+        }
+        System.out.println("Wrote " + routeCount + " routes to " + output);
+    }
+
+    public static long checksum(byte[] json) {
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        return crc.getValue();
+    }
+
+    /**
+     * Writes the routes of config and returns how many were written.
+     * Missing lists and rules are written as empty, matching how the JSON
+     * is read at runtime; a route without a name or DSN fails the build.
+     */
+    static int write(RoutingConfiguration.RoutingConfigJson config, long sourceChecksum, DataOutputStream out) throws IOException {
+        List<RoutingConfiguration.ProjectRouteJson> projects = config.projects != null ? config.projects : List.of();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sourceChecksum);
+        out.writeInt(projects.size());
+        for (int i = 0; i < projects.size(); i++) {
+            RoutingConfiguration.ProjectRouteJson project = projects.get(i);
+            try {
+                RoutingConfiguration.checkRoute(project, i);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            RoutingConfiguration.RulesJson rules = project.rules != null ? project.rules : new RoutingConfiguration.RulesJson();
+            out.writeUTF(project.name);
+            out.writeUTF(project.dsn);
+            writeStrings(rules.tags, out);
+            writeStrings(rules.statusCodes, out);
+            writeStrings(rules.exceptionTypes, out);
+            writeStrings(rules.messageKeywords, out);
+        }
+        return projects.size();
+    }
+
+    /**
+     * Reads routes from a snapshot compiled from JSON with the given checksum.
+     * Throws IOException if the snapshot is stale, truncated or corrupt.
+     */
+    public static ProjectRoute[] read(InputStream is, long expectedChecksum) throws IOException {
+        // The snapshot is small; buffering it whole lets counts be checked against what is left
+        byte[] bytes = is.readAllBytes();
+        if (bytes.length < HEADER_BYTES) {
+            throw new IOException("Routing snapshot is truncated");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a routing snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported routing snapshot version: " + version);
+        }
+        if (in.readLong() != expectedChecksum) {
+            throw new IOException("Routing snapshot is stale, its source JSON has changed");
+        }
+
+        ProjectRoute[] routes = new ProjectRoute[readCount(in, MIN_ROUTE_BYTES)];
+        try {
+            for (int i = 0; i < routes.length; i++) {
+                routes[i] = new ProjectRoute(
+                    in.readUTF(),
+                    in.readUTF(),
+                    readStrings(in),
+                    readStrings(in),
+                    readStrings(in),
+                    readStrings(in)
+                );
+            }
+        } catch (EOFException e) {
+            throw new IOException("Routing snapshot is truncated", e);
+        }
+        return routes;
+    }
+
+    private static int readCount(DataInputStream in, int minElementBytes) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > in.available() / minElementBytes) {
+            throw new IOException("Corrupt routing snapshot, invalid count: " + count);
+        }
+        return count;
+    }
+
+    private static void writeStrings(List<String> values, DataOutputStream out) throws IOException {
+        if (values == null) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        String[] values = new String[readCount(in, MIN_STRING_BYTES)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readUTF();
+        }
+        return values;
+    }
+}
@@ -4,31 +4,66 @@ import io.sentry.*;
 import io.sentry.transport.ITransport;
 import io.sentry.transport.RateLimiter;
 import io.sentry.transport.AsyncHttpTransport;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.sentry.clientreport.DiscardReason;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 //Custom transport that routes Sentry events to different projects based on event content
 public class RoutingTransport implements ITransport {
     
+    // Upper bound on concurrent posts across all destinations; threads start on demand
+    private static final int WORKER_THREADS = 64;
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 60;
+    // Idle destinations beyond this many are closed, least recently used first
+    static final int MAX_CACHED_TRANSPORTS = 256;
+    
     private final ILogger logger;
     private final RateLimiter rateLimiter;
-    private final ObjectMapper objectMapper;
-    private final Map<String, ITransport> transportCache;
+    private final Map<String, DirectHttpTransport> transportCache;
     private final SentryOptions baseOptions;
+    private final ThreadPoolExecutor workers;
     
     private final ProjectRoute[] projectRoutes;
+    private final String tenantTag;
+    private final DsnResolver dsnResolver;
+    private final EnvelopeBufferPool bufferPool;
     
     public RoutingTransport(SentryOptions options) {
+        this(options, null, null);
+    }
+    
+    // Events carrying tenantTag are sent to the DSN dsnResolver returns for its value
+    public RoutingTransport(SentryOptions options, String tenantTag, DsnResolver dsnResolver) {
+        this(options, tenantTag, dsnResolver, null);
+    }
+    
+    // With a bufferPool, queued envelopes are held off-heap until their send finishes; close() closes the pool
+    public RoutingTransport(SentryOptions options, String tenantTag, DsnResolver dsnResolver, 
+                            EnvelopeBufferPool bufferPool) {
         this.logger = options.getLogger();
         this.rateLimiter = new RateLimiter(options);
-        this.objectMapper = new ObjectMapper();
         this.transportCache = new ConcurrentHashMap<>();
         this.baseOptions = options;
-        this.projectRoutes = RoutingConfiguration.loadRoutes();
+        this.workers = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 
+            WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "sentry-routing-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.workers.allowCoreThreadTimeOut(true);
+        this.projectRoutes = RoutingConfiguration.loadRoutes(logger);
+        this.tenantTag = tenantTag;
+        this.dsnResolver = dsnResolver;
+        this.bufferPool = bufferPool;
         
         logger.log(SentryLevel.DEBUG, "RoutingTransport initialized with " + projectRoutes.length + " project routes");
     }
@@ -37,13 +72,19 @@ public class RoutingTransport implements ITransport {
     public void send(SentryEnvelope envelope, Hint hint) throws IOException {
         String targetDsn = analyzeEventContentAndRoute(envelope);
 
-        ITransport targetTransport = getOrCreateTransport(targetDsn);
-        if (targetTransport != null) {
-            targetTransport.send(envelope, hint);
-            logger.log(SentryLevel.INFO, "Event successfully sent to " + getProjectName(targetDsn));
-        } else {
-            logger.log(SentryLevel.ERROR, "Failed to create transport for DSN: " + maskDsn(targetDsn));
+        // A destination evicted between lookup and enqueue is replaced by a fresh one
+        for (int attempt = 0; attempt < 2; attempt++) {
+            DirectHttpTransport targetTransport = getOrCreateTransport(targetDsn);
+            if (targetTransport == null) {
+                logger.log(SentryLevel.ERROR, "Failed to create transport for DSN: " + maskDsn(targetDsn));
+                return;
+            }
+            if (targetTransport.enqueue(envelope, bufferPool)) {
+                return;
+            }
         }
+        logger.log(SentryLevel.WARNING, "Transport for " + maskDsn(targetDsn) + " was closed, dropping envelope");
+        baseOptions.getClientReportRecorder().recordLostEnvelope(DiscardReason.QUEUE_OVERFLOW, envelope);
     }
     
     private String analyzeEventContentAndRoute(SentryEnvelope envelope) {
@@ -70,42 +111,38 @@ public class RoutingTransport implements ITransport {
     private String routeEvent(SentryEnvelopeItem item) {
         try {
             String eventJson = new String(item.getData());
-            JsonNode eventNode = objectMapper.readTree(eventJson);
-            
-            Map<String, String> tags = extractTags(eventNode);
-            String exceptionType = extractExceptionType(eventNode);
-            String message = extractMessage(eventNode);
+            JsonNode eventNode = SharedObjectMapper.get().readTree(eventJson);
             
+            return routeEvent(extractTags(eventNode), extractExceptionType(eventNode), extractMessage(eventNode));
+        } catch (Exception e) {
+            logger.log(SentryLevel.ERROR, "Error routing event", e);
+        }
+        
+        return getDefaultDsn();
+    }
+    
+    // Tenant routing first, then the configured rules, then the default project
+    String routeEvent(Map<String, String> tags, String exceptionType, String message) {
+        String tenantDsn = resolveTenantDsn(tags);
+        if (tenantDsn != null) {
+            return tenantDsn;
+        }
+        
         for (ProjectRoute route : projectRoutes) {
             if (route.matches(tags, exceptionType, message)) {
                 logger.log(SentryLevel.DEBUG, "Event matched project: " + route.name);
                 return route.dsn;
-                }
             }
-        } catch (Exception e) {
-            logger.log(SentryLevel.ERROR, "Error routing event", e);
         }
-        
         return getDefaultDsn();
     }
     
     private String routeTransaction(SentryEnvelopeItem item) {
         try {
             String transactionJson = new String(item.getData());
-            JsonNode transactionNode = objectMapper.readTree(transactionJson);
-            
-            Map<String, String> tags = extractTags(transactionNode);
+            JsonNode transactionNode = SharedObjectMapper.get().readTree(transactionJson);
             
-        if (tags != null) {
-            for (ProjectRoute route : projectRoutes) {
-                for (String tag : route.tags) {
-                    if (tags.containsKey(tag)) {
-                        logger.log(SentryLevel.DEBUG, "Transaction matched project: " + route.name);
-                        return route.dsn;
-                        }
-                    }
-                }
-            }
+            return routeTransaction(extractTags(transactionNode));
         } catch (Exception e) {
             logger.log(SentryLevel.ERROR, "Error routing transaction", e);
         }
@@ -113,6 +150,43 @@ public class RoutingTransport implements ITransport {
         return getDefaultDsn();
     }
     
+    String routeTransaction(Map<String, String> tags) {
+        String tenantDsn = resolveTenantDsn(tags);
+        if (tenantDsn != null) {
+            return tenantDsn;
+        }
+        
+        for (ProjectRoute route : projectRoutes) {
+            for (String tag : route.tags) {
+                if (tags.containsKey(tag)) {
+                    logger.log(SentryLevel.DEBUG, "Transaction matched project: " + route.name);
+                    return route.dsn;
+                }
+            }
+        }
+        return getDefaultDsn();
+    }
+    
+    // Returns null, so the event falls through to the rules, for unknown tenants and malformed DSNs
+    private String resolveTenantDsn(Map<String, String> tags) {
+        if (dsnResolver == null) return null;
+        
+        String tenant = tags.get(tenantTag);
+        if (tenant == null) return null;
+        
+        String dsn = dsnResolver.resolve(tenant);
+        if (dsn == null) return null;
+        
+        try {
+            ParsedDsn.of(dsn);
+        } catch (IllegalArgumentException e) {
+            logger.log(SentryLevel.WARNING, "Ignoring DSN for tenant " + tenant + ": " + e.getMessage());
+            return null;
+        }
+        logger.log(SentryLevel.DEBUG, "Event routed by tenant: " + tenant);
+        return dsn;
+    }
+    
     private String getDefaultDsn() {
         return projectRoutes.length > 0 ? projectRoutes[projectRoutes.length - 1].dsn : null;
     }
@@ -154,70 +228,284 @@ public class RoutingTransport implements ITransport {
         return null;
     }
     
-    private ITransport getOrCreateTransport(String dsn) {
-        return transportCache.computeIfAbsent(dsn, this::createTransportForDsn);
+    DirectHttpTransport getOrCreateTransport(String dsn) {
+        if (dsn == null) return null;
+        DirectHttpTransport transport = transportCache.get(dsn);
+        if (transport == null || transport.closed) {
+            if (transport != null) {
+                transportCache.remove(dsn, transport);
+            }
+            transport = transportCache.computeIfAbsent(dsn, this::createTransportForDsn);
+            if (transport != null && transportCache.size() > MAX_CACHED_TRANSPORTS) {
+                evictIdleTransports(transport);
+            }
+        }
+        if (transport != null) {
+            transport.lastUsedNanos = System.nanoTime();
+        }
+        return transport;
     }
     
-    private ITransport createTransportForDsn(String dsn) {
-        return new DirectHttpTransport(dsn, logger);
+    // Returns null for a malformed DSN in the routing config
+    private DirectHttpTransport createTransportForDsn(String dsn) {
+        try {
+            ParsedDsn parsed = ParsedDsn.of(dsn);
+            return new DirectHttpTransport(parsed, getProjectName(parsed), logger, baseOptions, workers);
+        } catch (IllegalArgumentException e) {
+            logger.log(SentryLevel.ERROR, "Invalid DSN " + maskDsn(dsn) + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Closes least recently used idle destinations until the cache is back at
+     * its cap. Destinations with envelopes queued or in flight are kept, so the
+     * cache can stay over the cap while they drain.
+     */
+    private synchronized void evictIdleTransports(DirectHttpTransport keep) {
+        while (transportCache.size() > MAX_CACHED_TRANSPORTS) {
+            DirectHttpTransport oldest = null;
+            for (DirectHttpTransport transport : transportCache.values()) {
+                if (transport != keep && transport.isIdle()
+                        && (oldest == null || transport.lastUsedNanos - oldest.lastUsedNanos < 0)) {
+                    oldest = transport;
+                }
+            }
+            if (oldest == null) return;
+            if (oldest.retireIfIdle()) {
+                transportCache.remove(oldest.dsn.dsn, oldest);
+                oldest.close(System.nanoTime());
+                logger.log(SentryLevel.DEBUG, "Closed idle transport for " + oldest.projectName);
+            }
+        }
     }
     
-    private static class DirectHttpTransport implements ITransport {
-        private final String dsn;
+    int getCachedTransportCount() {
+        return transportCache.size();
+    }
+    
+    // Writes the envelope in wire format into a buffer taken from pool, or the heap when pool is null
+    private static EnvelopeBufferPool.Buffer serialize(SentryEnvelope envelope, EnvelopeBufferPool pool) throws IOException {
+        List<byte[]> parts = new ArrayList<>();
+        try {
+            parts.add(("{\"event_id\":\""
+                + (envelope.getHeader().getEventId() != null ? envelope.getHeader().getEventId() : "unknown")
+                + "\",\"sent_at\":\""
+                + java.time.Instant.now().toString()
+                + "\"}\n").getBytes(StandardCharsets.UTF_8));
+            
+            for (SentryEnvelopeItem item : envelope.getItems()) {
+                byte[] data = item.getData();
+                parts.add(("{\"type\":\""
+                    + item.getHeader().getType().getItemType()
+                    + "\",\"length\":"
+                    + data.length
+                    + "}\n").getBytes(StandardCharsets.UTF_8));
+                parts.add(data);
+            }
+        } catch (Exception e) {
+            throw new IOException("Failed to serialize envelope", e);
+        }
+        
+        int size = 0;
+        for (byte[] part : parts) {
+            size += part.length;
+        }
+        
+        EnvelopeBufferPool.Buffer payload = pool != null ? pool.acquire(size) : EnvelopeBufferPool.heapBuffer(size);
+        ByteBuffer buffer = payload.buffer();
+        for (byte[] part : parts) {
+            buffer.put(part);
+        }
+        buffer.flip();
+        return payload;
+    }
+    
+    /**
+     * Delivery to one DSN. Callers only serialize and enqueue; shared workers
+     * drain the bounded queue, and the adaptive limit decides how many of this
+     * destination's envelopes are in flight at once.
+     */
+    private static class DirectHttpTransport {
+        private static final int INITIAL_CONCURRENCY = 4;
+        private static final int MIN_CONCURRENCY = 1;
+        private static final int MAX_CONCURRENCY = 64;
+        
+        private final ParsedDsn dsn;
+        private final String projectName;
         private final ILogger logger;
-        private final RateLimiter rateLimiter;
-        private final String apiUrl;
-        private final String authKey;
+        private final SentryOptions options;
+        private final Executor workers;
+        private final BlockingQueue<EnvelopeBufferPool.Buffer> queue;
+        private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+        private final AtomicLong droppedCount = new AtomicLong();
+        private final Map<String, Supplier<Number>> gauges = new LinkedHashMap<>();
+        // Envelopes queued or in flight, guarded by this
+        private int pending;
+        private volatile boolean closed;
+        volatile long lastUsedNanos = System.nanoTime();
         
-        public DirectHttpTransport(String dsn, ILogger logger) {
+        public DirectHttpTransport(ParsedDsn dsn, String projectName, ILogger logger, SentryOptions options, 
+                                   Executor workers) {
             this.dsn = dsn;
+            this.projectName = projectName;
             this.logger = logger;
-            this.rateLimiter = new RateLimiter(new SentryOptions());
+            this.options = options;
+            this.workers = workers;
+            this.queue = new ArrayBlockingQueue<>(options.getMaxQueueSize());
+            this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(INITIAL_CONCURRENCY, MIN_CONCURRENCY, MAX_CONCURRENCY);
             
-            String protocol = dsn.substring(0, dsn.indexOf("://"));
-            String remaining = dsn.substring(dsn.indexOf("://") + 3);
-            this.authKey = remaining.substring(0, remaining.indexOf("@"));
-            String hostAndProject = remaining.substring(remaining.indexOf("@") + 1);
-            String host = hostAndProject.substring(0, hostAndProject.indexOf("/"));
-            String projectId = hostAndProject.substring(hostAndProject.indexOf("/") + 1);
+            // The DSN hash keeps gauges apart for different keys of the same project
+            String metricTag = "{host=" + dsn.envelopeUrl.getAuthority() + ",project=" + dsn.projectId 
+                + ",dsn=" + Integer.toHexString(dsn.dsn.hashCode()) + "}";
+            gauges.put("concurrency.limit" + metricTag, concurrencyLimiter::getLimit);
+            gauges.put("concurrency.in_flight" + metricTag, concurrencyLimiter::getInFlight);
+            gauges.put("concurrency.rejected" + metricTag, concurrencyLimiter::getRejectedCount);
+            gauges.put("rtt.smoothed_ms" + metricTag, concurrencyLimiter::getSmoothedRttMillis);
+            gauges.put("queue.depth" + metricTag, queue::size);
+            gauges.put("queue.dropped" + metricTag, droppedCount::get);
+            gauges.forEach(TransportMetrics::register);
+        }
+        
+        /**
+         * Serializes the envelope into a buffer from pool and queues it for delivery,
+         * or records a client report and drops it when the queue is full.
+         * Returns false, without touching the envelope, if this transport was
+         * already closed, so the caller can retry on a fresh one.
+         */
+        public boolean enqueue(SentryEnvelope envelope, EnvelopeBufferPool pool) throws IOException {
+            synchronized (this) {
+                if (closed) return false;
+                pending++;
+            }
+            // Checked before serializing so a saturated destination costs no copy or pooled buffer
+            if (queue.remainingCapacity() == 0) {
+                finished();
+                drop(envelope);
+                return true;
+            }
             
-            this.apiUrl = protocol + "://" + host + "/api/" + projectId + "/envelope/";
+            EnvelopeBufferPool.Buffer payload;
+            try {
+                payload = serialize(envelope, pool);
+            } catch (IOException e) {
+                finished();
+                throw e;
+            }
+            // A close that drained the queue before this offer leaves the envelope to us
+            if (!queue.offer(payload) || (closed && queue.remove(payload))) {
+                payload.release();
+                finished();
+                drop(envelope);
+                return true;
+            }
+            logger.log(SentryLevel.DEBUG, "Event queued for " + projectName);
+            dispatch();
+            return true;
+        }
+        
+        private void drop(SentryEnvelope envelope) {
+            droppedCount.incrementAndGet();
+            logger.log(SentryLevel.WARNING, "Queue for " + projectName + " is full or closed, dropping envelope");
+            options.getClientReportRecorder().recordLostEnvelope(DiscardReason.QUEUE_OVERFLOW, envelope);
         }
         
-        @Override
-        public void send(SentryEnvelope envelope, Hint hint) throws IOException {
+        private synchronized boolean isIdle() {
+            return pending == 0;
+        }
+        
+        // Stops accepting envelopes if none are queued or in flight
+        private synchronized boolean retireIfIdle() {
+            if (pending > 0) return false;
+            closed = true;
+            return true;
+        }
+        
+        // Hands queued envelopes to workers while the concurrency limit allows
+        private void dispatch() {
+            while (!queue.isEmpty() && concurrencyLimiter.tryAcquire()) {
+                EnvelopeBufferPool.Buffer payload = queue.poll();
+                if (payload == null) {
+                    concurrencyLimiter.release();
+                    return;
+                }
+                try {
+                    workers.execute(() -> deliver(payload));
+                } catch (RejectedExecutionException e) {
+                    concurrencyLimiter.release();
+                    payload.release();
+                    finished();
+                    logger.log(SentryLevel.WARNING, "Transport closed, dropping envelope for " + projectName);
+                }
+            }
+        }
+        
+        private void deliver(EnvelopeBufferPool.Buffer payload) {
+            long startNanos = System.nanoTime();
+            boolean healthy = false;
+            try {
+                int responseCode = post(payload.buffer().duplicate());
+                // 5xx and 429 mean the endpoint is degraded, so the limiter backs off
+                healthy = responseCode < 500 && responseCode != 429;
+                if (responseCode >= 200 && responseCode < 300) {
+                    logger.log(SentryLevel.INFO, "Event successfully sent to " + projectName);
+                } else {
+                    logger.log(SentryLevel.WARNING, "Event was not delivered to " + projectName + ", HTTP " + responseCode);
+                }
+            } catch (IOException e) {
+                logger.log(SentryLevel.WARNING, "Event was not delivered to " + projectName);
+            } finally {
+                if (healthy) {
+                    concurrencyLimiter.onSuccess(System.nanoTime() - startNanos);
+                } else {
+                    concurrencyLimiter.onFailure();
+                }
+                payload.release();
+                finished();
+                dispatch();
+            }
+        }
+        
+        private synchronized void finished() {
+            if (--pending == 0) {
+                notifyAll();
+            }
+        }
+        
+        // Waits until nothing is queued or in flight; returns false if the deadline passes first
+        private synchronized boolean awaitIdle(long deadlineNanos) {
+            try {
+                while (pending > 0) {
+                    long remainingMillis = (deadlineNanos - System.nanoTime()) / 1_000_000L;
+                    if (remainingMillis <= 0) return false;
+                    wait(remainingMillis);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        
+        private int post(ByteBuffer body) throws IOException {
             try {
                 
-                java.net.URL url = new java.net.URL(apiUrl);
-                java.net.HttpURLConnection connection = (java.net.HttpURLConnection) url.openConnection();
+                java.net.HttpURLConnection connection = (java.net.HttpURLConnection) dsn.envelopeUrl.openConnection();
                 
                 connection.setRequestMethod("POST");
                 connection.setDoOutput(true);
+                // Bounded so a hanging endpoint ends in onFailure() instead of holding a slot forever
+                connection.setConnectTimeout(options.getConnectionTimeoutMillis());
+                connection.setReadTimeout(options.getReadTimeoutMillis());
+                connection.setFixedLengthStreamingMode(body.remaining());
                 connection.setRequestProperty("Content-Type", "application/x-sentry-envelope");
-                connection.setRequestProperty("User-Agent", "sentry.java/8.22.0");
-                connection.setRequestProperty("X-Sentry-Auth", 
-                    "Sentry sentry_version=7, sentry_client=sentry.java/8.22.0, sentry_key=" + authKey);
+                connection.setRequestProperty("User-Agent", ParsedDsn.SENTRY_CLIENT);
+                connection.setRequestProperty("X-Sentry-Auth", dsn.authHeader);
                 
-                try (java.io.OutputStream os = connection.getOutputStream()) {
-                    StringBuilder envelopeBuilder = new StringBuilder();
-                    
-                    envelopeBuilder.append("{\"event_id\":\"")
-                        .append(envelope.getHeader().getEventId() != null ? envelope.getHeader().getEventId() : "unknown")
-                        .append("\",\"sent_at\":\"")
-                        .append(java.time.Instant.now().toString())
-                        .append("\"}\n");
-                    
-                    for (SentryEnvelopeItem item : envelope.getItems()) {
-                        envelopeBuilder.append("{\"type\":\"")
-                            .append(item.getHeader().getType().getItemType())
-                            .append("\",\"length\":")
-                            .append(item.getData().length)
-                            .append("}\n");
-                        envelopeBuilder.append(new String(item.getData()));
+                try (WritableByteChannel channel = Channels.newChannel(connection.getOutputStream())) {
+                    while (body.hasRemaining()) {
+                        channel.write(body);
                     }
-                    
-                    byte[] envelopeBytes = envelopeBuilder.toString().getBytes("UTF-8");
-                    os.write(envelopeBytes);
                 }
                 
                 int responseCode = connection.getResponseCode();
@@ -233,24 +521,38 @@ public class RoutingTransport implements ITransport {
                     }
                 }
                 
+                return responseCode;
+                
             } catch (Exception e) {
                 logger.log(SentryLevel.ERROR, "Failed to send to Sentry", e);
                 throw new IOException("Failed to send to Sentry", e);
             }
         }
         
-        @Override
-        public void flush(long timeoutMillis) { }
-        
-        @Override
-        public void close() throws IOException { }
-        
-        @Override
-        public void close(boolean isRestarting) throws IOException { }
+        public void flush(long deadlineNanos) {
+            if (!awaitIdle(deadlineNanos)) {
+                logger.log(SentryLevel.WARNING, "Flush timed out with envelopes pending for " + projectName);
+            }
+        }
         
-        @Override
-        public RateLimiter getRateLimiter() {
-            return rateLimiter;
+        // Stops accepting envelopes, waits for pending ones until the deadline, then drops the rest
+        public void close(long deadlineNanos) {
+            synchronized (this) {
+                closed = true;
+            }
+            awaitIdle(deadlineNanos);
+            
+            int dropped = 0;
+            EnvelopeBufferPool.Buffer payload;
+            while ((payload = queue.poll()) != null) {
+                payload.release();
+                finished();
+                dropped++;
+            }
+            if (dropped > 0) {
+                logger.log(SentryLevel.WARNING, "Dropped " + dropped + " queued envelopes for " + projectName + " on close");
+            }
+            gauges.forEach(TransportMetrics::unregister);
         }
     }
     
@@ -259,45 +561,43 @@ public class RoutingTransport implements ITransport {
         return dsn.replaceAll("://[^@]+@", "://***@");
     }
     
-    private String getProjectName(String dsn) {
+    // Tenant DSNs have no configured name, so they are logged by project ID
+    private String getProjectName(ParsedDsn dsn) {
         for (ProjectRoute route : projectRoutes) {
-            if (route.dsn.equals(dsn)) {
+            if (route.dsn.equals(dsn.dsn)) {
                 return route.name;
             }
         }
-        return "Unknown Project";
+        return "project " + dsn.projectId;
     }
     
     @Override
     public void flush(long timeoutMillis) {
         logger.log(SentryLevel.DEBUG, "Flushing all cached transports");
-        for (ITransport transport : transportCache.values()) {
-            if (transport != null) {
-                transport.flush(timeoutMillis);
-            }
+        long deadlineNanos = System.nanoTime() + timeoutMillis * 1_000_000L;
+        for (DirectHttpTransport transport : transportCache.values()) {
+            transport.flush(deadlineNanos);
         }
     }
     
     @Override
     public void close() throws IOException {
-        logger.log(SentryLevel.INFO, "Closing RoutingTransport and all cached transports");
-        for (ITransport transport : transportCache.values()) {
-            if (transport != null) {
-                transport.close();
-            }
-        }
-        transportCache.clear();
+        close(false);
     }
     
     @Override
     public void close(boolean isRestarting) throws IOException {
-        logger.log(SentryLevel.INFO, "Closing RoutingTransport");
-        for (ITransport transport : transportCache.values()) {
-            if (transport != null) {
-                transport.close(isRestarting);
-            }
+        logger.log(SentryLevel.INFO, "Closing RoutingTransport and all cached transports");
+        // On restart the new transport takes over immediately, so pending envelopes are not waited for
+        long deadlineNanos = System.nanoTime() + (isRestarting ? 0 : baseOptions.getFlushTimeoutMillis() * 1_000_000L);
+        for (DirectHttpTransport transport : transportCache.values()) {
+            transport.close(deadlineNanos);
         }
         transportCache.clear();
+        workers.shutdown();
+        if (bufferPool != null) {
+            bufferPool.close();
+        }
     }
     
     @Override
@@ -1,12 +1,14 @@
 package com.example;
 
 import io.sentry.Sentry;
+import io.sentry.SentryLevel;
 import io.sentry.SentryOptions;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
 import jakarta.annotation.PostConstruct;
+import java.io.IOException;
 
 @SpringBootApplication
 public class SentryTransportDemoApplication {
@@ -24,8 +26,10 @@ public class SentryTransportDemoApplication {
             options.setLogger(new ConsoleLogger());
             options.setTracesSampleRate(1.0);
             
-            // Set our custom transport factory  
-            options.setTransportFactory((sentryOptions, requestDetails) -> new RoutingTransport(sentryOptions));
+            // Set our custom transport factory; each transport owns and closes its buffer pool
+            options.setTransportFactory((sentryOptions, requestDetails) -> 
+                new RoutingTransport(sentryOptions, "tenant", loadTenantResolver(sentryOptions),
+                    EnvelopeBufferPool.withDefaults()));
             
             options.setAttachStacktrace(true);
             options.setBeforeSend((event, hint) -> {
@@ -33,5 +37,14 @@ public class SentryTransportDemoApplication {
             });
         });
     }
+
+    private static DsnResolver loadTenantResolver(SentryOptions options) {
+        try {
+            return MapDsnResolver.fromClasspath("sentry-tenant-dsns.properties", options.getLogger());
+        } catch (IOException e) {
+            options.getLogger().log(SentryLevel.ERROR, "Failed to load tenant DSNs, tenant routing disabled", e);
+            return null;
+        }
+    }
 }
 
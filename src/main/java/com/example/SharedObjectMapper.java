@@ -0,0 +1,20 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Process-wide ObjectMapper, created on first use so Jackson stays out of
+ * startup until an event body or the JSON config actually has to be parsed.
+ */
+public final class SharedObjectMapper {
+
+    private SharedObjectMapper() { }
+
+    public static ObjectMapper get() {
+        return Holder.MAPPER;
+    }
+
+    private static final class Holder {
+        static final ObjectMapper MAPPER = new ObjectMapper();
+    }
+}
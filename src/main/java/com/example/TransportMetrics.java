@@ -0,0 +1,35 @@
+package com.example;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of gauges describing transport state, exposed through the REST API.
+ */
+public final class TransportMetrics {
+
+    private static final Map<String, Supplier<Number>> gauges = new ConcurrentSkipListMap<>();
+
+    private TransportMetrics() { }
+
+    public static void register(String name, Supplier<Number> gauge) {
+        gauges.put(name, gauge);
+    }
+
+    public static void unregister(String name) {
+        gauges.remove(name);
+    }
+
+    // Removes the gauge only if it is still the one registered, so a newer owner of the name keeps it
+    public static void unregister(String name, Supplier<Number> gauge) {
+        gauges.remove(name, gauge);
+    }
+
+    public static Map<String, Number> snapshot() {
+        Map<String, Number> values = new LinkedHashMap<>();
+        gauges.forEach((name, gauge) -> values.put(name, gauge.get()));
+        return values;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT_NANOS = 10_000_000L;
+
+    @Test
+    void rejectsImmediatelyWhenSaturated() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejectedCount());
+    }
+
+    @Test
+    void releaseReturnsSlotWithoutChangingLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release();
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0.0, limiter.getSmoothedRttMillis());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void growsByAboutOneSlotPerWindow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 64);
+        while (limiter.tryAcquire()) { }
+
+        // One full window of successes at the current limit
+        for (int i = 0; i < 4; i++) {
+            limiter.onSuccess(RTT_NANOS);
+            assertTrue(limiter.tryAcquire());
+        }
+        assertEquals(4, limiter.getLimit());
+
+        limiter.onSuccess(RTT_NANOS);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void doesNotGrowWhenLimitIsUnused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 64);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onSuccess(RTT_NANOS);
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void neverGrowsPastMaxLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 6);
+        while (limiter.tryAcquire()) { }
+
+        for (int i = 0; i < 200; i++) {
+            limiter.onSuccess(RTT_NANOS);
+            limiter.tryAcquire();
+        }
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    void backsOffMultiplicativelyOnFailure() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 64);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.onFailure();
+        assertEquals(9, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onFailure();
+        }
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void backsOffWhenLatencyClimbsAboveBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 64);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onSuccess(RTT_NANOS);
+        }
+        assertEquals(10, limiter.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onSuccess(RTT_NANOS * 10);
+        }
+        assertTrue(limiter.getLimit() < 10);
+        assertTrue(limiter.getSmoothedRttMillis() > 10.0);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnvelopeBufferPoolTest {
+
+    @Test
+    void takesSmallestFittingClassAndReturnsItOnRelease() {
+        EnvelopeBufferPool pool = new EnvelopeBufferPool(new int[]{16, 64}, new int[]{1, 1});
+
+        EnvelopeBufferPool.Buffer buffer = pool.acquire(10);
+        assertTrue(buffer.buffer().isDirect());
+        assertEquals(16, buffer.buffer().capacity());
+        assertEquals(10, buffer.buffer().limit());
+
+        buffer.release();
+        buffer.release();
+        assertEquals(16, pool.acquire(16).buffer().capacity());
+        assertEquals(0, pool.getExhaustedCount());
+        pool.close();
+    }
+
+    @Test
+    void spillsIntoLargerClassBeforeTheHeap() {
+        EnvelopeBufferPool pool = new EnvelopeBufferPool(new int[]{16, 64}, new int[]{1, 1});
+
+        pool.acquire(10);
+        EnvelopeBufferPool.Buffer spilled = pool.acquire(10);
+        assertTrue(spilled.buffer().isDirect());
+        assertEquals(64, spilled.buffer().capacity());
+
+        EnvelopeBufferPool.Buffer heap = pool.acquire(10);
+        assertFalse(heap.buffer().isDirect());
+        assertEquals(1, pool.getExhaustedCount());
+        assertEquals(0, pool.getOversizeCount());
+        pool.close();
+    }
+
+    @Test
+    void countsOversizeSeparatelyFromExhaustion() {
+        EnvelopeBufferPool pool = new EnvelopeBufferPool(new int[]{16, 64}, new int[]{1, 1});
+
+        EnvelopeBufferPool.Buffer buffer = pool.acquire(65);
+        assertFalse(buffer.buffer().isDirect());
+        assertEquals(65, buffer.buffer().capacity());
+        assertEquals(1, pool.getOversizeCount());
+        assertEquals(0, pool.getExhaustedCount());
+        pool.close();
+    }
+
+    @Test
+    void rejectsUnsortedOrMismatchedClasses() {
+        assertThrows(IllegalArgumentException.class, () -> new EnvelopeBufferPool(new int[]{64, 16}, new int[]{1, 1}));
+        assertThrows(IllegalArgumentException.class, () -> new EnvelopeBufferPool(new int[]{16, 16}, new int[]{1, 1}));
+        assertThrows(IllegalArgumentException.class, () -> new EnvelopeBufferPool(new int[]{16, 64}, new int[]{1}));
+    }
+
+    @Test
+    void closeLeavesGaugesOfANewerPool() {
+        EnvelopeBufferPool old = new EnvelopeBufferPool(new int[]{16}, new int[]{1});
+        EnvelopeBufferPool current = new EnvelopeBufferPool(new int[]{16}, new int[]{2});
+
+        old.close();
+        assertEquals(2, TransportMetrics.snapshot().get("buffer_pool.capacity{size=16}"));
+
+        current.close();
+        assertFalse(TransportMetrics.snapshot().containsKey("buffer_pool.capacity{size=16}"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example;
+
+import io.sentry.NoOpLogger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapDsnResolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void skipsMalformedEntries() {
+        MapDsnResolver resolver = new MapDsnResolver(Map.of(
+            "acme", " https://key@o0.ingest.sentry.io/1 ",
+            "broken", "not-a-dsn"
+        ), NoOpLogger.getInstance());
+
+        assertEquals("https://key@o0.ingest.sentry.io/1", resolver.resolve("acme"));
+        assertNull(resolver.resolve("broken"));
+        assertNull(resolver.resolve("unknown"));
+    }
+
+    @Test
+    void loadsPropertiesFile() throws IOException {
+        Path file = tempDir.resolve("tenants.properties");
+        Files.writeString(file, "# comment\nacme=https://key@o0.ingest.sentry.io/1\nbroken=https://o0.ingest.sentry.io/2\n");
+
+        MapDsnResolver resolver = MapDsnResolver.fromFile(file, NoOpLogger.getInstance());
+
+        assertEquals("https://key@o0.ingest.sentry.io/1", resolver.resolve("acme"));
+        assertNull(resolver.resolve("broken"));
+    }
+
+    @Test
+    void missingClasspathResourceResolvesNothing() throws IOException {
+        MapDsnResolver resolver = MapDsnResolver.fromClasspath("no-such-tenants.properties", NoOpLogger.getInstance());
+
+        assertNull(resolver.resolve("acme"));
+    }
+}
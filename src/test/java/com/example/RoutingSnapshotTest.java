@@ -0,0 +1,139 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingSnapshotTest {
+
+    private static final long CHECKSUM = RoutingSnapshot.checksum("{\"projects\":[]}".getBytes());
+    // The route count follows magic, version and checksum
+    private static final int ROUTE_COUNT_OFFSET = 4 + 4 + 8;
+
+    @Test
+    void roundTripsRoutes() throws IOException {
+        ProjectRoute[] routes = RoutingSnapshot.read(new ByteArrayInputStream(snapshot()), CHECKSUM);
+
+        assertEquals(1, routes.length);
+        assertEquals("Gateway Project", routes[0].name);
+        assertEquals("https://key@o0.ingest.sentry.io/1", routes[0].dsn);
+        assertEquals(Set.of("gateway"), routes[0].tags);
+        assertEquals(Set.of("502"), routes[0].statusValues);
+        assertEquals(Set.of("BadGatewayException"), routes[0].exceptionTypes);
+        assertEquals(Set.of("502 Bad Gateway", "Upstream service"), routes[0].messageKeywords);
+    }
+
+    @Test
+    void rejectsSnapshotOfDifferentJson() {
+        long otherChecksum = RoutingSnapshot.checksum("{\"projects\":[{}]}".getBytes());
+
+        assertThrows(IOException.class,
+            () -> RoutingSnapshot.read(new ByteArrayInputStream(snapshot()), otherChecksum));
+    }
+
+    @Test
+    void rejectsNegativeRouteCount() {
+        byte[] bytes = snapshot();
+        ByteBuffer.wrap(bytes).putInt(ROUTE_COUNT_OFFSET, -1);
+
+        assertThrows(IOException.class, () -> RoutingSnapshot.read(new ByteArrayInputStream(bytes), CHECKSUM));
+    }
+
+    @Test
+    void rejectsRouteCountLargerThanFile() {
+        byte[] bytes = snapshot();
+        ByteBuffer.wrap(bytes).putInt(ROUTE_COUNT_OFFSET, Integer.MAX_VALUE);
+
+        assertThrows(IOException.class, () -> RoutingSnapshot.read(new ByteArrayInputStream(bytes), CHECKSUM));
+    }
+
+    @Test
+    void rejectsTruncatedSnapshot() {
+        byte[] bytes = snapshot();
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+
+        assertThrows(IOException.class, () -> RoutingSnapshot.read(new ByteArrayInputStream(truncated), CHECKSUM));
+    }
+
+    @Test
+    void rejectsOtherFiles() {
+        byte[] json = "{\"projects\":[]}".getBytes();
+
+        assertThrows(IOException.class, () -> RoutingSnapshot.read(new ByteArrayInputStream(json), CHECKSUM));
+    }
+
+    @Test
+    void writesMissingRulesAsEmpty() throws IOException {
+        RoutingConfiguration.ProjectRouteJson noRules = project("No Rules");
+        RoutingConfiguration.ProjectRouteJson nullTags = project("Null Tags");
+        nullTags.rules = new RoutingConfiguration.RulesJson();
+        nullTags.rules.tags = null;
+
+        ProjectRoute[] routes = RoutingSnapshot.read(new ByteArrayInputStream(write(noRules, nullTags)), CHECKSUM);
+
+        assertEquals(2, routes.length);
+        assertTrue(routes[0].tags.isEmpty());
+        assertTrue(routes[0].messageKeywords.isEmpty());
+        assertTrue(routes[1].tags.isEmpty());
+    }
+
+    @Test
+    void failsWithProjectNameWhenDsnIsMissing() {
+        RoutingConfiguration.ProjectRouteJson noDsn = project("No DSN");
+        noDsn.dsn = null;
+
+        IOException e = assertThrows(IOException.class, () -> write(project("Valid"), noDsn));
+        assertTrue(e.getMessage().contains("project 1 (No DSN)"), e.getMessage());
+    }
+
+    private static RoutingConfiguration.ProjectRouteJson project(String name) {
+        RoutingConfiguration.ProjectRouteJson project = new RoutingConfiguration.ProjectRouteJson();
+        project.name = name;
+        project.dsn = "https://key@o0.ingest.sentry.io/1";
+        return project;
+    }
+
+    private static byte[] write(RoutingConfiguration.ProjectRouteJson... projects) throws IOException {
+        RoutingConfiguration.RoutingConfigJson config = new RoutingConfiguration.RoutingConfigJson();
+        config.projects = List.of(projects);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            RoutingSnapshot.write(config, CHECKSUM, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] snapshot() {
+        RoutingConfiguration.RulesJson rules = new RoutingConfiguration.RulesJson();
+        rules.tags = List.of("gateway");
+        rules.statusCodes = List.of("502");
+        rules.exceptionTypes = List.of("BadGatewayException");
+        rules.messageKeywords = List.of("502 Bad Gateway", "Upstream service");
+
+        RoutingConfiguration.ProjectRouteJson project = new RoutingConfiguration.ProjectRouteJson();
+        project.name = "Gateway Project";
+        project.dsn = "https://key@o0.ingest.sentry.io/1";
+        project.rules = rules;
+
+        RoutingConfiguration.RoutingConfigJson config = new RoutingConfiguration.RoutingConfigJson();
+        config.projects = List.of(project);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            RoutingSnapshot.write(config, CHECKSUM, out);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example;
+
+import io.sentry.SentryOptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingTransportTest {
+
+    private static final String TENANT_DSN = "https://tenant@o0.ingest.sentry.io/99";
+
+    private static RoutingTransport withTenantDsn(String dsn) {
+        return new RoutingTransport(new SentryOptions(), "tenant", tenant -> "acme".equals(tenant) ? dsn : null);
+    }
+
+    @Test
+    void tenantTagRoutesAheadOfRules() throws IOException {
+        RoutingTransport transport = withTenantDsn(TENANT_DSN);
+
+        assertEquals(TENANT_DSN, transport.routeEvent(Map.of("tenant", "acme", "gateway", "true"), null, null));
+        assertEquals(TENANT_DSN, transport.routeTransaction(Map.of("tenant", "acme", "gateway", "true")));
+        transport.close();
+    }
+
+    @Test
+    void unknownTenantFallsThroughToRules() throws IOException {
+        RoutingTransport rulesOnly = new RoutingTransport(new SentryOptions());
+        RoutingTransport transport = withTenantDsn(TENANT_DSN);
+        Map<String, String> tags = Map.of("tenant", "initech", "gateway", "true");
+
+        String ruleDsn = rulesOnly.routeEvent(tags, null, null);
+        assertNotNull(ruleDsn);
+        assertEquals(ruleDsn, transport.routeEvent(tags, null, null));
+        rulesOnly.close();
+        transport.close();
+    }
+
+    @Test
+    void malformedTenantDsnFallsThroughToRules() throws IOException {
+        RoutingTransport rulesOnly = new RoutingTransport(new SentryOptions());
+        RoutingTransport transport = withTenantDsn("not-a-dsn");
+        Map<String, String> tags = Map.of("tenant", "acme", "gateway", "true");
+
+        assertEquals(rulesOnly.routeEvent(tags, null, null), transport.routeEvent(tags, null, null));
+        assertNull(transport.getOrCreateTransport("not-a-dsn"));
+        rulesOnly.close();
+        transport.close();
+    }
+
+    @Test
+    void evictsIdleDestinationsAboveTheCap() throws IOException {
+        RoutingTransport transport = new RoutingTransport(new SentryOptions());
+
+        for (int i = 0; i <= RoutingTransport.MAX_CACHED_TRANSPORTS; i++) {
+            assertNotNull(transport.getOrCreateTransport("https://key@o0.ingest.sentry.io/" + i));
+        }
+        assertEquals(RoutingTransport.MAX_CACHED_TRANSPORTS, transport.getCachedTransportCount());
+        transport.close();
+    }
+}